@@ -6,6 +6,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,58 @@ import java.util.Map;
  * @author kazushi47
  */
 public class CalcSalary {
+    /** 計算項目の値を計算するメソッド */
+    @FunctionalInterface
+    public interface ItemCalculator {
+        int calc(CalcSalary calcSalary, int empId) throws SQLException;
+    }
+
+    /**
+     * 計算項目名(salarysのカラム名)と計算メソッドの対応。
+     * calculate()はこの順に計算する。計算項目を追加する場合はここに登録する。
+     */
+    public static final Map<String, ItemCalculator> ITEMS;
+    static {
+        Map<String, ItemCalculator> items = new LinkedHashMap<>();
+        /* 年齢給 */
+        items.put("ageSalary", CalcSalary::calcAgeSalary);
+        /* 職能給 */
+        items.put("abilitySalary", CalcSalary::calcAbilitySalary);
+        /* 役職手当 */
+        items.put("jobTitleSalary", CalcSalary::calcJobTitleSalary);
+        /* 特務手当 */
+        items.put("specialWorkSalary", CalcSalary::calcSpecialWorkSalary);
+        /* 調整手当 */
+        items.put("controlSalary", CalcSalary::calcControlSalary);
+        /* 通勤手当 */
+        items.put("commuteSalary", CalcSalary::calcCommuteSalary);
+        /* 出張手当 */
+        items.put("businessTripSalary", CalcSalary::calcBusinessTripSalary);
+        /* 時間外勤務割増給与 */
+        items.put("overWorkSalary", CalcSalary::calcOverWorkSalary);
+        /* 休日勤務割増給与 */
+        items.put("holidayWorkSalary", CalcSalary::calcHolidayWorkSalary);
+        /* 深夜勤務割増給与 */
+        items.put("nightWorkingSalary", CalcSalary::calcNightWorkingSalary);
+        /* 特別休暇給与 */
+        items.put("specialHolidaySalary", CalcSalary::calcSpecialHolidaySalary);
+        /* 控除額 */
+        items.put("deduction", CalcSalary::calcDeduction);
+        /* 時間外勤務時数 */
+        items.put("overWorkTime", CalcSalary::calcOverWorkTime);
+        /* 休日勤務時数 */
+        items.put("holidayWorkTime", CalcSalary::calcHolidayWorkTime);
+        /* 深夜勤務時数 */
+        items.put("nightWorkTime", CalcSalary::calcnightWorkTime);
+        /* 対象特別休暇日数 */
+        items.put("targetspecialHolidays", CalcSalary::calcTargetSpecialHolidays);
+        /* 非就業時間 */
+        items.put("notWorkTime", CalcSalary::calcNotWorkTime);
+        /* 有給休暇日数 */
+        items.put("paidHolidays", CalcSalary::calcPaidHolidays);
+        ITEMS = Collections.unmodifiableMap(items);
+    }
+
     /** 給与計算対象部署ID */
     private final int DIV_ID;
     /** 給与計算対象期間の開始日("yyyy-mm-dd"の形の文字列) */
@@ -31,7 +84,7 @@ public class CalcSalary {
     /** 計算結果の格納用 */
     private List<Map<String, Integer>> results = new ArrayList<>();
     /** データベース接続用Connection */
-    private Connection connection = DBconnect.getConnection();
+    private final Connection connection;
 
     /**
      * 当クラスを使用するにはこのコンストラクタを使用しインスタンス化する必要がある。
@@ -42,42 +95,106 @@ public class CalcSalary {
      * @throws SQLException データベースのSalaryテーブル接続例外
      */
     public CalcSalary(int DIV_ID, String START_DATE, String END_DATE) throws SQLException {
+        this(DBconnect.getConnection(), DIV_ID, START_DATE, END_DATE);
+    }
+
+    /**
+     * 既に接続済みのConnectionを使い回してインスタンス化する場合はこのコンストラクタを使用する。
+     * 
+     * @param connection データベース接続用Connection
+     * @param DIV_ID     給与計算対象部署ID
+     * @param START_DATE 給与計算対象期間の開始日("yyyy-mm-dd"の形の文字列)
+     * @param END_DATE   給与計算対象期間の終了日("yyyy-mm-dd"の形の文字列)
+     * @throws SQLException データベースのSalaryテーブル接続例外
+     */
+    public CalcSalary(Connection connection, int DIV_ID, String START_DATE, String END_DATE) throws SQLException {
+        this(connection, loadResultParams(connection), DIV_ID, START_DATE, END_DATE);
+    }
+
+    /**
+     * 既に接続済みのConnectionと取得済みのSalaryテーブルのカラム一覧を使い回してインスタンス化する場合はこのコンストラクタを使用する。
+     * 常駐サービス(CalcSalaryServer)のように接続を開いたまま何度も計算する場合に使用する。
+     * カラム一覧はloadResultParams()で取得したものを渡す。
+     * 
+     * @param connection    データベース接続用Connection
+     * @param result_params Salaryテーブルのカラム一覧
+     * @param DIV_ID        給与計算対象部署ID
+     * @param START_DATE    給与計算対象期間の開始日("yyyy-mm-dd"の形の文字列)
+     * @param END_DATE      給与計算対象期間の終了日("yyyy-mm-dd"の形の文字列)
+     * @throws SQLException データベース取得時に発生する例外
+     */
+    public CalcSalary(Connection connection, List<String> result_params, int DIV_ID, String START_DATE, String END_DATE) throws SQLException {
         /* パラメータの設定 */
+        this.connection = connection;
         this.DIV_ID = DIV_ID;
         this.START_DATE = START_DATE;
         this.END_DATE = END_DATE;
-        
-        /* Salaryテーブルのカラム一覧をresult_paramsに設定 */
-        List<String> result_params = new ArrayList<>();
-        Statement stForResults = connection.createStatement();
-        ResultSet rsForResults = stForResults.executeQuery("select * from salarys");
-        ResultSetMetaData meta = rsForResults.getMetaData();
-        for (int i = 1; i <= meta.getColumnCount(); i++) {
-            result_params.add(meta.getColumnName(i));
-        }
-        rsForResults.close();
-        stForResults.close();
 
         /* 対象社員IDの計算結果格納用resultsの設定 */
-        PreparedStatement psForEmpIds = connection.prepareStatement("select empId from employees where divId = ?");
-        psForEmpIds.setInt(1, this.DIV_ID);
-        ResultSet rsForEmpIds = psForEmpIds.executeQuery();
-        while (rsForEmpIds.next()) {
-            Map<String, Integer> work = new LinkedHashMap<>();
-
-            /* 計算結果のkey値をresult_paramsの値に設定 */
-            result_params.forEach(s -> {
-                work.put(s, 0);
-            });
-            /* 計算結果のkey値であるempIdに社員IDを設定 */
-            work.put("empId", rsForEmpIds.getInt(1));
-            /* 計算結果のkey値であるdateは使用しないので削除する */
-            work.remove("date");
-
-            results.add(work);
+        try (PreparedStatement psForEmpIds = connection.prepareStatement("select empId from employees where divId = ?")) {
+            psForEmpIds.setInt(1, this.DIV_ID);
+            try (ResultSet rsForEmpIds = psForEmpIds.executeQuery()) {
+                while (rsForEmpIds.next()) {
+                    Map<String, Integer> work = new LinkedHashMap<>();
+
+                    /* 計算結果のkey値をresult_paramsの値に設定 */
+                    result_params.forEach(s -> {
+                        work.put(s, 0);
+                    });
+                    /* 計算結果のkey値であるempIdに社員IDを設定 */
+                    work.put("empId", rsForEmpIds.getInt(1));
+                    /* 計算結果のkey値であるdateは使用しないので削除する */
+                    work.remove("date");
+
+                    results.add(work);
+                }
+            }
+        }
+    }
+
+    /**
+     * calcXXX(int empId)で単一項目の値だけを計算する場合はこのコンストラクタを使用する。
+     * 部署の社員一覧は取得しないため、calculate()・executeCalc()を呼び出しても何も計算しない。
+     * 
+     * @param connection データベース接続用Connection
+     * @param START_DATE 給与計算対象期間の開始日("yyyy-mm-dd"の形の文字列)
+     * @param END_DATE   給与計算対象期間の終了日("yyyy-mm-dd"の形の文字列)
+     */
+    public CalcSalary(Connection connection, String START_DATE, String END_DATE) {
+        this.connection = connection;
+        this.DIV_ID = 0;
+        this.START_DATE = START_DATE;
+        this.END_DATE = END_DATE;
+    }
+
+    /**
+     * Salaryテーブルのカラム一覧を取得する。
+     * 取得したカラム一覧は同じデータベースに対する計算であれば使い回すことができる。
+     * 
+     * @param connection データベース接続用Connection
+     * @return Salaryテーブルのカラム一覧
+     * @throws SQLException データベースのSalaryテーブル接続例外
+     */
+    public static List<String> loadResultParams(Connection connection) throws SQLException {
+        List<String> result_params = new ArrayList<>();
+        try (Statement stForResults = connection.createStatement();
+                ResultSet rsForResults = stForResults.executeQuery("select * from salarys where 1 = 0")) {
+            ResultSetMetaData meta = rsForResults.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                result_params.add(meta.getColumnName(i));
+            }
         }
-        rsForEmpIds.close();
-        psForEmpIds.close();
+        return Collections.unmodifiableList(result_params);
+    }
+
+    /**
+     * 計算結果を取得する。
+     * calculate()又はexecuteCalc()の実行前は各項目の値が0のままである。
+     * 
+     * @return 対象社員ごとの計算結果
+     */
+    public List<Map<String, Integer>> getResults() {
+        return Collections.unmodifiableList(results);
     }
 
     /**
@@ -93,48 +210,16 @@ public class CalcSalary {
 
     /**
      * 対象部署・期間の給与計算を実行する。
+     * 計算する項目はITEMSに登録されている項目である。
      * 
      * @throws SQLException データベース取得時に発生する例外
      */
     public void calculate() throws SQLException {
         for (Map<String, Integer> result : results) {
             int empId = result.get("empId");
-            /* 年齢給 */
-            result.put("ageSalary", calcAgeSalary(empId));
-            /* 職能給 */
-            result.put("abilitySalary", calcAbilitySalary(empId));
-            /* 役職手当 */
-            result.put("jobTitleSalary", calcJobTitleSalary(empId));
-            /* 特務手当 */
-            result.put("specialWorkSalary", calcSpecialWorkSalary(empId));
-            /* 調整手当 */
-            result.put("controlSalary", calcControlSalary(empId));
-            /* 通勤手当 */
-            result.put("commuteSalary", calcCommuteSalary(empId));
-            /* 出張手当 */
-            result.put("businessTripSalary", calcBusinessTripSalary(empId));
-            /* 時間外勤務割増給与 */
-            result.put("overWorkSalary", calcOverWorkSalary(empId));
-            /* 休日勤務割増給与 */
-            result.put("holidayWorkSalary", calcHolidayWorkSalary(empId));
-            /* 深夜勤務割増給与 */
-            result.put("nightWorkingSalary", calcNightWorkingSalary(empId));
-            /* 特別休暇給与 */
-            result.put("specialHolidaySalary", calcSpecialHolidaySalary(empId));
-            /* 控除額 */
-            result.put("deduction", calcDeduction(empId));
-            /* 時間外勤務時数 */
-            result.put("overWorkTime", calcOverWorkTime(empId));
-            /* 休日勤務時数 */
-            result.put("holidayWorkTime", calcHolidayWorkTime(empId));
-            /* 深夜勤務時数 */
-            result.put("nightWorkTime", calcnightWorkTime(empId));
-            /* 対象特別休暇日数 */
-            result.put("targetspecialHolidays", calcTargetSpecialHolidays(empId));
-            /* 非就業時間 */
-            result.put("notWorkTime", calcNotWorkTime(empId));
-            /* 有給休暇日数 */
-            result.put("paidHolidays", calcPaidHolidays(empId));
+            for (Map.Entry<String, ItemCalculator> item : ITEMS.entrySet()) {
+                result.put(item.getKey(), item.getValue().calc(this, empId));
+            }
         }
     }
 
@@ -150,31 +235,29 @@ public class CalcSalary {
     private void postDatabase(boolean isFirstCalc) throws SQLException {
         /* Insertで初期化 */
         if (isFirstCalc) {
-            PreparedStatement psForInsert = connection.prepareStatement("insert into salarys(empId, date) values(?, ?)");
-            for (Map<String, Integer> result : results) {
-                /* パラメータのクリア */
-                psForInsert.clearParameters();
-                /* パラメータの設定 */
-                psForInsert.setInt(1, result.get("empId"));
-                psForInsert.setDate(2, Date.valueOf(START_DATE));
-                psForInsert.executeUpdate();
+            try (PreparedStatement psForInsert = connection.prepareStatement("insert into salarys(empId, date) values(?, ?)")) {
+                for (Map<String, Integer> result : results) {
+                    /* パラメータのクリア */
+                    psForInsert.clearParameters();
+                    /* パラメータの設定 */
+                    psForInsert.setInt(1, result.get("empId"));
+                    psForInsert.setDate(2, Date.valueOf(START_DATE));
+                    psForInsert.executeUpdate();
+                }
             }
-            psForInsert.close();
         }
         /* Updateで登録 */
         for (Map<String, Integer> result : results) {
             for (Map.Entry<String, Integer> entry : result.entrySet()) {
-                PreparedStatement psForUpdate = connection.prepareStatement("update salarys set " + entry.getKey() + " = ? where empId = ? and date = ?");
-                
-                /* パラメータのクリア */
-                psForUpdate.clearParameters();
-                /* パラメータの設定 */
-                psForUpdate.setInt(1, entry.getValue());
-                psForUpdate.setInt(2, result.get("empId"));
-                psForUpdate.setDate(3, Date.valueOf(START_DATE));
-                psForUpdate.executeUpdate();
-    
-                psForUpdate.close();
+                try (PreparedStatement psForUpdate = connection.prepareStatement("update salarys set " + entry.getKey() + " = ? where empId = ? and date = ?")) {
+                    /* パラメータのクリア */
+                    psForUpdate.clearParameters();
+                    /* パラメータの設定 */
+                    psForUpdate.setInt(1, entry.getValue());
+                    psForUpdate.setInt(2, result.get("empId"));
+                    psForUpdate.setDate(3, Date.valueOf(START_DATE));
+                    psForUpdate.executeUpdate();
+                }
             }
         }
     }
@@ -187,22 +270,22 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcAgeSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int ageSalary = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select salary from ageSalarys where age in("
             + "select iif(format(?, \"mmdd\") < format(birthdate, \"mmdd\"), datediff(\"yyyy\", birthdate, ?) - 1, datediff(\"yyyy\", birthdate, ?))"
             + " from employees where empId = ?)"
-        );
-        ps.setDate(1, Date.valueOf(START_DATE));
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(START_DATE));
-        ps.setInt(4, empId);
-        ResultSet rs = ps.executeQuery();
-        int ageSalary = 0;
-        if (rs.next()) {
-            ageSalary = rs.getInt(1);
+        )) {
+            ps.setDate(1, Date.valueOf(START_DATE));
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(START_DATE));
+            ps.setInt(4, empId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    ageSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return ageSalary;
     }
 
@@ -214,17 +297,17 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcAbilitySalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select salary from abilitySalarys where abilityGrade in(select abilityGrade from employees where empId = ?)"
-        );
-        ps.setInt(1, empId);
-        ResultSet rs = ps.executeQuery();
         int abilitySalary = 0;
-        if (rs.next()) {
-            abilitySalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select salary from abilitySalarys where abilityGrade in(select abilityGrade from employees where empId = ?)"
+        )) {
+            ps.setInt(1, empId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    abilitySalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return abilitySalary;
     }
 
@@ -236,17 +319,17 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcJobTitleSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select salary from jobTitleSalarys where jobTitleGrade in(select jobTitleGrade from employees where empId = ?)"
-        );
-        ps.setInt(1, empId);
-        ResultSet rs = ps.executeQuery();
         int jobTitleSalary = 0;
-        if (rs.next()) {
-            jobTitleSalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select salary from jobTitleSalarys where jobTitleGrade in(select jobTitleGrade from employees where empId = ?)"
+        )) {
+            ps.setInt(1, empId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    jobTitleSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return jobTitleSalary;
     }
 
@@ -258,17 +341,17 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcSpecialWorkSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select salary from specialWorkSalarys where specialWorkGrade in(select specialWorkGrade from employees where empId = ?)"
-        );
-        ps.setInt(1, empId);
-        ResultSet rs = ps.executeQuery();
         int specialWorkSalary = 0;
-        if (rs.next()) {
-            specialWorkSalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select salary from specialWorkSalarys where specialWorkGrade in(select specialWorkGrade from employees where empId = ?)"
+        )) {
+            ps.setInt(1, empId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    specialWorkSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return specialWorkSalary;
     }
 
@@ -280,19 +363,19 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcControlSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select sum(salary) from controlSalarys where empId = ? and startDate between ? and ?"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
         int controlSalary = 0;
-        if (rs.next()) {
-            controlSalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select sum(salary) from controlSalarys where empId = ? and startDate between ? and ?"
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    controlSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return controlSalary;
     }
 
@@ -304,19 +387,19 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcCommuteSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select sum(salary) from commuteSalarys where empId = ? and startDate between ? and ?"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
         int commuteSalary = 0;
-        if (rs.next()) {
-            commuteSalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select sum(salary) from commuteSalarys where empId = ? and startDate between ? and ?"
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    commuteSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return commuteSalary;
     }
 
@@ -328,7 +411,8 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcBusinessTripSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int businessTripSalary = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select sum(b.salary) from "
             + "(select w1.myId as targetId, max(b.targetJobTitleGrade) as targetGrade from "
                 + "(select e.empId as myId, iif(e.jobTitleGrade is null, 0, e.jobTitleGrade) as myGrade from employees e where e.empId = ?) w1, "
@@ -336,17 +420,16 @@ public class CalcSalary {
             + "attendances a, businessTripSalarys b "
             + "where w2.targetId = a.empId and w2.targetGrade = b.targetJobTitleGrade and a.businessTripType = b.businessTripType "
             + "and a.date between ? and ?"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int businessTripSalary = 0;
-        if (rs.next()) {
-            businessTripSalary = rs.getInt(1);
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    businessTripSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return businessTripSalary;
     }
 
@@ -358,21 +441,21 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcOverWorkSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int overWorkSalary = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select fix(iif(diff > 0, ? / 157.5 * 1.25 * diff, 0)) "
             + "from (select sum(fix(datediff(\"n\", attendanceTime, leavingTime) / 30) / 2.0) - 157.5 as diff from attendances where empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null)"
-        );
-        ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
-        ps.setInt(2, empId);
-        ps.setDate(3, Date.valueOf(START_DATE));
-        ps.setDate(4, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int overWorkSalary = 0;
-        if (rs.next()) {
-            overWorkSalary = rs.getInt(1);
+        )) {
+            ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
+            ps.setInt(2, empId);
+            ps.setDate(3, Date.valueOf(START_DATE));
+            ps.setDate(4, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    overWorkSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return overWorkSalary;
     }
 
@@ -384,23 +467,23 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcHolidayWorkSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int holidayWorkSalary = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select fix(? / 157.5 * 0.1 * sum(iif(work >= 2.0, work, 0))) "
             + "from (select fix(datediff(\"n\", attendanceTime, leavingTime) / 30) / 2.0 as work from attendances "
             + "where (weekday(date) in(1, 7) or date in(select date from holidays) or format(date, \"mm/dd\") in(\"12/29\", \"12/30\", \"12/31\", \"01/01\", \"01/02\", \"01/03\", \"01/04\")) "
             + "and empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null)"
-        );
-        ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
-        ps.setInt(2, empId);
-        ps.setDate(3, Date.valueOf(START_DATE));
-        ps.setDate(4, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int holidayWorkSalary = 0;
-        if (rs.next()) {
-            holidayWorkSalary = rs.getInt(1);
+        )) {
+            ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
+            ps.setInt(2, empId);
+            ps.setDate(3, Date.valueOf(START_DATE));
+            ps.setDate(4, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    holidayWorkSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return holidayWorkSalary;
     }
 
@@ -412,22 +495,22 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcNightWorkingSalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int nightWorkingSalary = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select fix(? / 157.5 * 0.25 * "
             + "sum(fix((iif(attendanceTime <= #4:30:0#, datediff(\"n\", attendanceTime, #5:0:0#), 0) + iif(leavingTime >= #22:30:0#, datediff(\"n\", #22:0:0#, leavingTime), 0) + iif(leavingTime <= #5:0:0#, datediff(\"n\", #0:0:0#, leavingTime), 0)) / 30) /2.0)) "
             + "from attendances where empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null"
-        );
-        ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
-        ps.setInt(2, empId);
-        ps.setDate(3, Date.valueOf(START_DATE));
-        ps.setDate(4, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int nightWorkingSalary = 0;
-        if (rs.next()) {
-            nightWorkingSalary = rs.getInt(1);
+        )) {
+            ps.setInt(1, calcAgeSalary(empId) + calcAbilitySalary(empId));  // 基本給をセット
+            ps.setInt(2, empId);
+            ps.setDate(3, Date.valueOf(START_DATE));
+            ps.setDate(4, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    nightWorkingSalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return nightWorkingSalary;
     }
 
@@ -439,21 +522,21 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcSpecialHolidaySalary(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select fix(count(*) * ? * 60 / 100) from attendances where specialHolidayType = \"臨時休業\" and empId = ? and date between ? and ?"
-        );
-        // 平均給与日額をセット
-        ps.setInt(1, (calcAgeSalary(empId) + calcAbilitySalary(empId) + calcJobTitleSalary(empId) + calcSpecialWorkSalary(empId) + calcControlSalary(empId) + calcCommuteSalary(empId) + calcBusinessTripSalary(empId) + calcOverWorkSalary(empId) + calcHolidayWorkSalary(empId) + calcNightWorkingSalary(empId)) / 21);
-        ps.setInt(2, empId);
-        ps.setDate(3, Date.valueOf(START_DATE));
-        ps.setDate(4, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
         int specialHolidaySalary = 0;
-        if (rs.next()) {
-            specialHolidaySalary = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select fix(count(*) * ? * 60 / 100) from attendances where specialHolidayType = \"臨時休業\" and empId = ? and date between ? and ?"
+        )) {
+            // 平均給与日額をセット
+            ps.setInt(1, (calcAgeSalary(empId) + calcAbilitySalary(empId) + calcJobTitleSalary(empId) + calcSpecialWorkSalary(empId) + calcControlSalary(empId) + calcCommuteSalary(empId) + calcBusinessTripSalary(empId) + calcOverWorkSalary(empId) + calcHolidayWorkSalary(empId) + calcNightWorkingSalary(empId)) / 21);
+            ps.setInt(2, empId);
+            ps.setDate(3, Date.valueOf(START_DATE));
+            ps.setDate(4, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    specialHolidaySalary = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return specialHolidaySalary;
     }
 
@@ -477,20 +560,20 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcOverWorkTime(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int overWorkTime = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select iif(diff > 0, diff, 0) "
             + "from (select sum(fix(datediff(\"n\", attendanceTime, leavingTime) / 30) / 2.0) - 157.5 as diff from attendances where empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null)"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int overWorkTime = 0;
-        if (rs.next()) {
-            overWorkTime = rs.getInt(1);
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    overWorkTime = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return overWorkTime;
     }
 
@@ -502,22 +585,22 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcHolidayWorkTime(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int holidayWorkTime = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select fix(sum(iif(work >= 2.0, work, 0))) "
             + "from (select fix(datediff(\"n\", attendanceTime, leavingTime) / 30) / 2.0 as work from attendances "
             + "where (weekday(date) in(1, 7) or date in(select date from holidays) or format(date, \"mm/dd\") in(\"12/29\", \"12/30\", \"12/31\", \"01/01\", \"01/02\", \"01/03\", \"01/04\")) "
             + "and empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null)"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int holidayWorkTime = 0;
-        if (rs.next()) {
-            holidayWorkTime = rs.getInt(1);
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    holidayWorkTime = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return holidayWorkTime;
     }
 
@@ -529,21 +612,21 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcnightWorkTime(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
+        int nightWorkingTime = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
             "select fix( "
             + "sum(fix((iif(attendanceTime <= #4:30:0#, datediff(\"n\", attendanceTime, #5:0:0#), 0) + iif(leavingTime >= #22:30:0#, datediff(\"n\", #22:0:0#, leavingTime), 0) + iif(leavingTime <= #5:0:0#, datediff(\"n\", #0:0:0#, leavingTime), 0)) / 30) /2.0)) "
             + "from attendances where empId = ? and date between ? and ? and attendanceTime is not null and leavingTime is not null"
-        );
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
-        int nightWorkingTime = 0;
-        if (rs.next()) {
-            nightWorkingTime = rs.getInt(1);
+        )) {
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    nightWorkingTime = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return nightWorkingTime;
     }
 
@@ -555,20 +638,20 @@ public class CalcSalary {
      * @throws SQLException データベース取得時に発生する例外
      */
     public int calcTargetSpecialHolidays(int empId) throws SQLException {
-        PreparedStatement ps = connection.prepareStatement(
-            "select count(*) from attendances where specialHolidayType = \"臨時休業\" and empId = ? and date between ? and ?"
-        );
-        // 平均給与日額をセット
-        ps.setInt(1, empId);
-        ps.setDate(2, Date.valueOf(START_DATE));
-        ps.setDate(3, Date.valueOf(END_DATE));
-        ResultSet rs = ps.executeQuery();
         int specialHolidays = 0;
-        if (rs.next()) {
-            specialHolidays = rs.getInt(1);
+        try (PreparedStatement ps = connection.prepareStatement(
+            "select count(*) from attendances where specialHolidayType = \"臨時休業\" and empId = ? and date between ? and ?"
+        )) {
+            // 平均給与日額をセット
+            ps.setInt(1, empId);
+            ps.setDate(2, Date.valueOf(START_DATE));
+            ps.setDate(3, Date.valueOf(END_DATE));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    specialHolidays = rs.getInt(1);
+                }
+            }
         }
-        rs.close();
-        ps.close();
         return specialHolidays;
     }
 
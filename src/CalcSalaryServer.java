@@ -0,0 +1,636 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 給与計算常駐サービス
+ *
+ * データベース接続を開いたまま常駐し、ローカルのHTTPリクエストで給与計算を受け付ける。
+ * 起動毎に発生するJVM起動・UCanAccessによるデータベース読み込みを省くことで、
+ * UIからの再計算を短時間で返却できるようにする。
+ *
+ * 受け付けるリクエスト(いずれもlocalhostのみ)
+ * ブラウザ上の他サイトからの呼び出しを防ぐため、Hostヘッダがlocalhost以外のリクエスト、
+ * 及びOriginヘッダが付いたリクエストは拒否する。
+ * - GET  /calculate?divId=1&amp;startDate=2020-11-21&amp;endDate=2020-12-20
+ * - POST /executeCalc?divId=1&amp;startDate=2020-11-21&amp;endDate=2020-12-20&amp;isFirstCalc=false
+ * - GET  /item?name=ageSalary&amp;empId=1&amp;startDate=2020-11-21&amp;endDate=2020-12-20
+ * - GET  /health
+ * - GET  /stats
+ *
+ * 常駐中に他のプロセス(Accessでの勤怠入力など)がデータベースファイルを更新しても、
+ * 開いたままの接続には反映されない。そのため各リクエストの処理前にファイルの更新日時を確認し、
+ * 変わっていれば接続し直してから計算する。
+ */
+public class CalcSalaryServer {
+    /** 起動時メッセージ */
+    private static final String I001 = "給与計算サービス起動 ポート:";
+    /** 停止時メッセージ */
+    private static final String I002 = "給与計算サービス停止";
+    /** ウォームアップ完了時メッセージ */
+    private static final String I003 = "ウォームアップ完了 処理時間:";
+    /** 接続失敗時メッセージ */
+    private static final String W001 = "接続失敗";
+    /** ウォームアップ失敗時メッセージ */
+    private static final String W002 = "ウォームアップ失敗 ";
+    /** 停止処理中メッセージ */
+    private static final String W003 = "停止中";
+    /** 待ち受けポート(引数で指定がない場合) */
+    private static final int DEFAULT_PORT = 8765;
+    /** データベースファイルパス(引数で指定がない場合) */
+    private static final String DEFAULT_DB_FILE = "Database.accdb";
+    /** 接続URLの接頭辞(この後にデータベースファイルパスを付ける) */
+    private static final String URL_PREFIX = "jdbc:ucanaccess://";
+    /** ヘルスチェックでロック取得を待つ時間(ミリ秒) */
+    private static final long HEALTH_TIMEOUT_MILLIS = 200;
+    /** ヘルスチェックで接続の検査を待つ時間(秒) */
+    private static final int HEALTH_TIMEOUT_SECONDS = 1;
+    /** 計算処理のリクエスト処理スレッド数 */
+    private static final int THREADS = 4;
+
+    /** 接続先かつ更新日時を監視するデータベースファイル */
+    private final Path dbFile;
+    /** 接続時のデータベースファイル更新日時 */
+    private long dbLastModified;
+    /** 実際に待ち受けているポート */
+    private int port;
+    /** データベース接続用Connection(常駐中は使い回す。ヘルスチェックからはロックなしで参照する) */
+    private volatile Connection connection;
+    /** 停止処理中かどうか(ロックを取得した状態で参照・更新する) */
+    private boolean stopping = false;
+    /** Salaryテーブルのカラム一覧(接続し直す度に取得し直す) */
+    private List<String> resultParams;
+    /** Connectionは複数スレッドで同時に使用できないため、データベースを使う処理はこのロックで直列化する */
+    private final ReentrantLock lock = new ReentrantLock(true);
+    /** サービス起動時刻 */
+    private final long startedAt = System.currentTimeMillis();
+    /** 受け付けたリクエスト数 */
+    private final AtomicLong requests = new AtomicLong();
+    /** エラーとなったリクエスト数 */
+    private final AtomicLong errors = new AtomicLong();
+    /** 処理時間の合計(ミリ秒) */
+    private final AtomicLong totalMillis = new AtomicLong();
+    /** 処理時間の最大(ミリ秒) */
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * 引数は順に待ち受けポート、データベースファイルパス(いずれも省略可)。
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String dbFile = args.length > 1 ? args[1] : DEFAULT_DB_FILE;
+        new CalcSalaryServer(Paths.get(dbFile)).start(port);
+    }
+
+    /**
+     * データベースファイルを指定してインスタンス化する。
+     * 接続先と更新日時の監視対象が食い違わないよう、DBconnectは使わずにこのファイルへ直接接続する。
+     *
+     * @param dbFile 接続先かつ更新日時を監視するデータベースファイル
+     */
+    public CalcSalaryServer(Path dbFile) {
+        this.dbFile = dbFile;
+    }
+
+    /**
+     * データベースに接続し、サービスを起動する。
+     *
+     * @param port 待ち受けポート(0の場合は空いているポートを使用する)
+     * @throws IOException  ポートの待ち受けに失敗した場合の例外
+     * @throws SQLException データベースのSalaryテーブル接続例外
+     */
+    public void start(int port) throws IOException, SQLException {
+        /* 接続を開き、Salaryテーブルのカラム一覧を読み込んでおく */
+        connect();
+        /* 最初のリクエストが遅くならないよう、計算処理を一度実行しておく */
+        warmUp();
+
+        /*
+         * 計算処理とヘルスチェック・統計は別々のスレッドで処理する。
+         * 計算処理のスレッドが全てロック待ちになっていても、ヘルスチェック・統計は待たされずに返却できる。
+         * HttpServer自体にはExecutorを設定せず、受付スレッドは各Handlerが振り分けるだけにする。
+         */
+        ExecutorService calcExecutor = Executors.newFixedThreadPool(THREADS);
+        ExecutorService monitorExecutor = Executors.newSingleThreadExecutor();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        /* 0を指定した場合は実際に割り当てられたポートをHostヘッダの確認に使う */
+        this.port = server.getAddress().getPort();
+        server.createContext("/calculate", new Handler("GET", calcExecutor, this::handleCalculate));
+        server.createContext("/executeCalc", new Handler("POST", calcExecutor, this::handleExecuteCalc));
+        server.createContext("/item", new Handler("GET", calcExecutor, this::handleItem));
+        server.createContext("/health", new Handler("GET", monitorExecutor, params -> handleHealth()));
+        server.createContext("/stats", new Handler("GET", monitorExecutor, params -> handleStats()));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            calcExecutor.shutdown();
+            monitorExecutor.shutdown();
+            /* 以降にExecutorに残ったリクエストが処理されても、接続し直さないようにしてから閉じる */
+            lock.lock();
+            try {
+                stopping = true;
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                /* 停止時のため無視する */
+            } finally {
+                lock.unlock();
+            }
+            System.out.println(I002);
+        }));
+
+        server.start();
+        System.out.println(I001 + this.port);
+    }
+
+    /**
+     * 社員が所属する部署の直近1か月分の給与計算をデータベースを更新せずに一度実行し、
+     * 計算処理で使うクラスの読み込み・JITコンパイルを済ませておく。
+     * 失敗しても起動は続ける。
+     */
+    private void warmUp() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        try (Statement st = connection.createStatement();
+                ResultSet rs = st.executeQuery("select min(divId) from employees")) {
+            int divId = rs.next() ? rs.getInt(1) : 0;
+            new CalcSalary(connection, resultParams, divId, today.minusMonths(1).plusDays(1).toString(), today.toString()).calculate();
+            System.out.println(I003 + (System.currentTimeMillis() - start) + "ms");
+        } catch (SQLException e) {
+            System.out.println(W002 + e.getMessage());
+        }
+    }
+
+    /**
+     * 対象部署・期間の給与計算を実行し、結果を返却する。データベースは更新しない。
+     *
+     * @param params リクエストパラメータ
+     * @return 計算結果(JSON)
+     * @throws SQLException データベース取得時に発生する例外
+     */
+    private String handleCalculate(Map<String, String> params) throws SQLException {
+        lock.lock();
+        try {
+            CalcSalary calcSalary = newCalcSalary(params);
+            calcSalary.calculate();
+            return toJson(calcSalary.getResults());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 対象部署・期間の給与計算を実行し、結果をデータベースに格納した上で返却する。
+     * データベースへの格納は1つのトランザクションで行い、失敗した場合はロールバックする。
+     *
+     * @param params リクエストパラメータ
+     * @return 計算結果(JSON)
+     * @throws SQLException データベース取得・登録時に発生する例外
+     */
+    private String handleExecuteCalc(Map<String, String> params) throws SQLException {
+        /* InsertとUpdateを切り替える値のため、true/false以外は受け付けない */
+        String isFirstCalcValue = required(params, "isFirstCalc");
+        if (!"true".equals(isFirstCalcValue) && !"false".equals(isFirstCalcValue)) {
+            throw new IllegalArgumentException("isFirstCalcはtrue又はfalseを指定する: " + isFirstCalcValue);
+        }
+        boolean isFirstCalc = Boolean.parseBoolean(isFirstCalcValue);
+        lock.lock();
+        try {
+            CalcSalary calcSalary = newCalcSalary(params);
+            /* 途中で失敗した場合に一部の社員・項目だけが更新されないよう、まとめてコミットする */
+            connection.setAutoCommit(false);
+            long beforeCommit;
+            Exception failure = null;
+            try {
+                calcSalary.executeCalc(isFirstCalc);
+                beforeCommit = lastModified();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                /* 元に戻せなかった場合も、計算・登録時の例外を優先して返却する */
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException autoCommitError) {
+                    /* 状態の分からない接続は次のリクエストで接続し直す */
+                    dbLastModified = -1;
+                    if (failure == null) {
+                        throw autoCommitError;
+                    }
+                    failure.addSuppressed(autoCommitError);
+                }
+            }
+            /*
+             * 自身の書き込みによる更新日時の変化では接続し直さない。
+             * 但しコミット前に既に他のプロセスから更新されていた場合は、次のリクエストで接続し直す。
+             */
+            dbLastModified = beforeCommit == dbLastModified ? lastModified() : -1;
+            return toJson(calcSalary.getResults());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 指定された社員・項目の値だけを計算し、返却する。データベースは更新しない。
+     *
+     * @param params リクエストパラメータ
+     * @return 計算結果(JSON)
+     * @throws SQLException データベース取得時に発生する例外
+     */
+    private String handleItem(Map<String, String> params) throws SQLException {
+        String name = required(params, "name");
+        CalcSalary.ItemCalculator item = CalcSalary.ITEMS.get(name);
+        if (item == null) {
+            throw new IllegalArgumentException("不明な項目名: " + name);
+        }
+        int empId = Integer.parseInt(required(params, "empId"));
+        lock.lock();
+        try {
+            int value = item.calc(newItemCalcSalary(params), empId);
+            return "{\"empId\":" + empId + ",\"" + name + "\":" + value + "}";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * データベース接続の状態を返却する。
+     * 計算処理の完了を待たないよう、ロックが一定時間内に取得できない場合は確認せずにBUSYを返却する。
+     * ロックが取得できた場合は実際に接続を検査する。
+     *
+     * @return 接続状態(JSON)
+     * @throws SQLException 接続状態の確認時に発生する例外
+     */
+    private String handleHealth() throws SQLException {
+        Connection con = connection;
+        if (con == null || con.isClosed()) {
+            return "{\"status\":\"DOWN\"}";
+        }
+        boolean locked;
+        try {
+            locked = lock.tryLock(HEALTH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        if (!locked) {
+            return "{\"status\":\"BUSY\"}";
+        }
+        boolean valid;
+        try {
+            /* ロック待ちの間に接続し直している(失敗している)可能性があるため、取得し直す */
+            con = connection;
+            valid = con != null && con.isValid(HEALTH_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            valid = false;
+        } finally {
+            lock.unlock();
+        }
+        return "{\"status\":\"" + (valid ? "UP" : "DOWN") + "\"}";
+    }
+
+    /**
+     * リクエストの処理件数・処理時間を返却する。
+     *
+     * @return 統計情報(JSON)
+     */
+    private String handleStats() {
+        long count = requests.get();
+        return "{\"uptimeMillis\":" + (System.currentTimeMillis() - startedAt)
+                + ",\"requests\":" + count
+                + ",\"errors\":" + errors.get()
+                + ",\"averageMillis\":" + (count == 0 ? 0 : totalMillis.get() / count)
+                + ",\"maxMillis\":" + maxMillis.get()
+                + ",\"waitingThreads\":" + lock.getQueueLength() + "}";
+    }
+
+    /**
+     * リクエストパラメータからCalcSalaryをインスタンス化する。
+     * 接続が切れている場合やデータベースファイルが更新されている場合は接続し直す。ロックを取得した状態で呼び出すこと。
+     *
+     * @param params リクエストパラメータ
+     * @return CalcSalaryのインスタンス
+     * @throws SQLException データベース取得時に発生する例外
+     */
+    private CalcSalary newCalcSalary(Map<String, String> params) throws SQLException {
+        int divId = Integer.parseInt(required(params, "divId"));
+        String startDate = requiredDate(params, "startDate");
+        String endDate = requiredDate(params, "endDate");
+
+        refreshConnection();
+        return new CalcSalary(connection, resultParams, divId, startDate, endDate);
+    }
+
+    /**
+     * リクエストパラメータから単一項目計算用のCalcSalaryをインスタンス化する。
+     * 部署の社員一覧は取得しないため、divIdは不要である。
+     * 接続が切れている場合やデータベースファイルが更新されている場合は接続し直す。ロックを取得した状態で呼び出すこと。
+     *
+     * @param params リクエストパラメータ
+     * @return CalcSalaryのインスタンス
+     * @throws SQLException 接続に失敗した場合の例外
+     */
+    private CalcSalary newItemCalcSalary(Map<String, String> params) throws SQLException {
+        String startDate = requiredDate(params, "startDate");
+        String endDate = requiredDate(params, "endDate");
+
+        refreshConnection();
+        return new CalcSalary(connection, startDate, endDate);
+    }
+
+    /**
+     * 接続が切れている場合、又は接続後にデータベースファイルが他のプロセスから更新された場合は接続し直す。
+     * ロックを取得した状態で呼び出すこと。
+     *
+     * @throws SQLException 接続に失敗した場合、又は停止処理中の場合の例外
+     */
+    private void refreshConnection() throws SQLException {
+        if (stopping) {
+            throw new SQLException(W003);
+        }
+        if (connection == null || connection.isClosed() || lastModified() != dbLastModified) {
+            connect();
+        }
+    }
+
+    /**
+     * データベースに接続し、Salaryテーブルのカラム一覧を取得し直す。
+     * 既存の接続は閉じてから接続するため、データベースファイルの内容が読み込み直される。
+     * ロックを取得した状態又は起動時に呼び出すこと。
+     *
+     * @throws SQLException 接続に失敗した場合の例外
+     */
+    private void connect() throws SQLException {
+        Connection old = connection;
+        connection = null;
+        if (old != null && !old.isClosed()) {
+            old.close();
+        }
+        long modified = lastModified();
+        Connection con;
+        try {
+            con = DriverManager.getConnection(URL_PREFIX + dbFile);
+        } catch (SQLException e) {
+            throw new SQLException(W001 + ": " + dbFile, e);
+        }
+        resultParams = CalcSalary.loadResultParams(con);
+        dbLastModified = modified;
+        connection = con;
+    }
+
+    /**
+     * データベースファイルの更新日時を取得する。
+     *
+     * @return 更新日時(ミリ秒)
+     * @throws SQLException ファイルが読めない場合の例外
+     */
+    private long lastModified() throws SQLException {
+        try {
+            return Files.getLastModifiedTime(dbFile).toMillis();
+        } catch (IOException e) {
+            throw new SQLException(W001 + ": " + dbFile, e);
+        }
+    }
+
+    /**
+     * 必須のリクエストパラメータを取得する。
+     *
+     * @param params リクエストパラメータ
+     * @param key    パラメータ名
+     * @return パラメータの値
+     */
+    private static String required(Map<String, String> params, String key) {
+        String value = params.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("パラメータ不足: " + key);
+        }
+        return value;
+    }
+
+    /**
+     * 必須の日付パラメータを取得する。
+     *
+     * @param params リクエストパラメータ
+     * @param key    パラメータ名
+     * @return パラメータの値("yyyy-mm-dd"の形の文字列)
+     */
+    private static String requiredDate(Map<String, String> params, String key) {
+        String value = required(params, key);
+        /* 日付の書式チェック("yyyy-mm-dd"でなければIllegalArgumentException) */
+        try {
+            Date.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("日付の書式誤り(yyyy-mm-dd): " + key + "=" + value);
+        }
+        return value;
+    }
+
+    /**
+     * 計算結果をJSON文字列に変換する。
+     *
+     * @param results 計算結果
+     * @return JSON文字列
+     */
+    private static String toJson(List<Map<String, Integer>> results) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Map<String, Integer> result : results) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : result.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+                first = false;
+            }
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    /** リクエストの処理内容 */
+    @FunctionalInterface
+    private interface Action {
+        String handle(Map<String, String> params) throws SQLException;
+    }
+
+    /**
+     * HTTPリクエストを受け付け、パラメータの解析・応答の返却・統計の記録を行う。
+     * 処理は受付スレッドではなく、指定されたExecutorのスレッドで行う。
+     */
+    private class Handler implements HttpHandler {
+        /** 受け付けるHTTPメソッド */
+        private final String method;
+        /** 処理を行うExecutor */
+        private final ExecutorService executor;
+        /** リクエストの処理内容 */
+        private final Action action;
+
+        Handler(String method, ExecutorService executor, Action action) {
+            this.method = method;
+            this.executor = executor;
+            this.action = action;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            long start = System.currentTimeMillis();
+            try {
+                executor.execute(() -> process(exchange, start));
+            } catch (RejectedExecutionException e) {
+                /* 停止処理中 */
+                respond(exchange, 503, error(W003), start);
+            }
+        }
+
+        /**
+         * リクエストを処理し、応答を返却する。
+         *
+         * @param exchange HTTPリクエスト
+         * @param start    受付時刻(ミリ秒)
+         */
+        private void process(HttpExchange exchange, long start) {
+            int status = 200;
+            String body;
+            try {
+                if (!isLocalRequest(exchange)) {
+                    status = 403;
+                    body = error("許可されていない呼び出し元");
+                } else if (!method.equals(exchange.getRequestMethod())) {
+                    status = 405;
+                    body = error("許可されていないメソッド: " + exchange.getRequestMethod());
+                } else {
+                    body = action.handle(parseQuery(exchange.getRequestURI()));
+                }
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                body = error(e.getMessage());
+            } catch (SQLException e) {
+                status = 500;
+                body = error(e.getMessage());
+            } catch (RuntimeException e) {
+                status = 500;
+                body = error(e.toString());
+            }
+            try {
+                respond(exchange, status, body, start);
+            } catch (IOException e) {
+                /* クライアントが切断済みのため返却できない */
+                exchange.close();
+            }
+        }
+
+        /**
+         * 応答を返却し、統計を記録する。
+         *
+         * @param exchange HTTPリクエスト
+         * @param status   HTTPステータス
+         * @param body     応答本文(JSON)
+         * @param start    受付時刻(ミリ秒)
+         * @throws IOException 応答の送信に失敗した場合の例外
+         */
+        private void respond(HttpExchange exchange, int status, String body, long start) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+
+            /* 統計の記録 */
+            long elapsed = System.currentTimeMillis() - start;
+            requests.incrementAndGet();
+            if (status != 200) {
+                errors.incrementAndGet();
+            }
+            totalMillis.addAndGet(elapsed);
+            maxMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * localhostのクライアントから直接送られたリクエストかどうかを判定する。
+     * Originヘッダはブラウザがページ上のスクリプトやフォームから送信した場合に付くため、付いていれば拒否する。
+     * HostヘッダはDNSリバインディング対策として、localhost又は127.0.0.1と待ち受けポートの組み合わせのみ許可する。
+     *
+     * @param exchange HTTPリクエスト
+     * @return 許可する場合はtrue
+     */
+    private boolean isLocalRequest(HttpExchange exchange) {
+        if (exchange.getRequestHeaders().containsKey("Origin")) {
+            return false;
+        }
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        return ("localhost:" + port).equalsIgnoreCase(host) || ("127.0.0.1:" + port).equals(host);
+    }
+
+    /**
+     * クエリ文字列をパラメータに分解する。
+     *
+     * @param uri リクエストURI
+     * @return リクエストパラメータ
+     */
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int idx = pair.indexOf('=');
+            String key = idx < 0 ? pair : pair.substring(0, idx);
+            String value = idx < 0 ? "" : pair.substring(idx + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * エラー応答用のJSON文字列を作成する。
+     *
+     * @param message エラーメッセージ
+     * @return JSON文字列
+     */
+    private static String error(String message) {
+        String escaped = String.valueOf(message).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", " ");
+        return "{\"error\":\"" + escaped + "\"}";
+    }
+}